@@ -0,0 +1,436 @@
+package com.github.ethangodden.datastructure;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bulk loader that streams edge-list files into an {@link IntRangePartitionSet}.
+ * Files are memory-mapped in large chunks and parsed by a pool of worker threads,
+ * which hand batches of edges to the calling thread through a bounded queue.
+ * Only the calling thread touches the partition set, so it does not need to be thread-safe.
+ * <p>
+ * A failed load is not rolled back. The partition set keeps the merges from batches applied
+ * before the failure was detected, which may come from any chunk of the file, and no batch
+ * is applied after it. Endpoints are checked before a batch is handed over, so a batch with
+ * an out-of-range endpoint is never partly applied.
+ * <p>
+ * Supported formats:
+ * <ul>
+ *     <li>Binary: consecutive pairs of 32-bit ints in a given byte order</li>
+ *     <li>Text: one edge per line, endpoints separated by spaces, tabs or commas.
+ *     Columns after the second are ignored, and blank lines or lines starting with
+ *     '#' or '%' are skipped</li>
+ * </ul>
+ */
+public final class EdgeListLoader {
+    public static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+    public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+    public static final int MAX_CHUNK_SIZE = 1 << 30;
+    /**
+     * Longest text line accepted, in bytes excluding the line terminator
+     */
+    public static final int MAX_LINE_LENGTH = 4096;
+
+    // Marker a worker enqueues once it has finished (or failed) its chunk
+    private static final int[] END_OF_CHUNK = new int[0];
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    /**
+     * Create a loader using one parser thread per available processor and default sizes
+     */
+    public EdgeListLoader() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE, DEFAULT_BATCH_SIZE,
+                4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Number of parser threads
+     * @param chunkSize Bytes mapped and parsed per task, no larger than {@link #MAX_CHUNK_SIZE}. It must be
+     *                  a multiple of 8 so that binary chunks split on whole (source, target) pairs
+     * @param batchSize Maximum number of edges handed over to the partition set at once
+     * @param queueCapacity Maximum number of parsed batches waiting to be applied
+     */
+    public EdgeListLoader(int parallelism, int chunkSize, int batchSize, int queueCapacity) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE || (chunkSize & 7) != 0) {
+            throw new IllegalArgumentException(
+                    "Chunk size must be a positive multiple of 8 bytes (one binary edge) up to " + MAX_CHUNK_SIZE);
+        }
+        if (batchSize <= 0 || batchSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Batch size out of bounds");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Union every edge of a binary edge-list file into the partition set
+     *
+     * @param file File of consecutive (source, target) pairs of 32-bit ints
+     * @param order Byte order the ints were written in
+     * @param set Partition set to merge edges into
+     * @return Throughput statistics of the load
+     * @throws IOException if the file cannot be read or its size is not a multiple of 8;
+     *                     the set may hold merges from part of the file
+     * @throws IllegalArgumentException if an endpoint is outside the partition set;
+     *                                  the set may hold merges from part of the file
+     */
+    public Stats loadBinary(@NotNull Path file, @NotNull ByteOrder order, @NotNull IntRangePartitionSet set)
+            throws IOException {
+        Objects.requireNonNull(order, "byte order cannot be null");
+        return load(file, set, (channel, from, to, size, sink) -> parseBinary(channel, from, to, order, sink),
+                true);
+    }
+
+    /**
+     * Union every edge of a delimited text edge-list file into the partition set
+     *
+     * @param file File with one edge per line
+     * @param set Partition set to merge edges into
+     * @return Throughput statistics of the load
+     * @throws IOException if the file cannot be read, contains a malformed line, or contains a line
+     *                     (including a comment) longer than {@link #MAX_LINE_LENGTH} bytes;
+     *                     the set may hold merges from part of the file
+     * @throws IllegalArgumentException if an endpoint is outside the partition set;
+     *                                  the set may hold merges from part of the file
+     */
+    public Stats loadText(@NotNull Path file, @NotNull IntRangePartitionSet set) throws IOException {
+        return load(file, set, EdgeListLoader::parseText, false);
+    }
+
+    private Stats load(Path file, IntRangePartitionSet set, ChunkParser parser, boolean binary) throws IOException {
+        Objects.requireNonNull(file, "file cannot be null");
+        Objects.requireNonNull(set, "partition set cannot be null");
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (binary && (size & 7) != 0) {
+                throw new IOException("Binary edge list size is not a multiple of 8 bytes: " + file);
+            }
+
+            long chunks = (size + chunkSize - 1) / chunkSize;
+            BlockingQueue<int[]> queue = new ArrayBlockingQueue<>(queueCapacity);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            WorkerThreadFactory threads = new WorkerThreadFactory();
+            ExecutorService workers = Executors.newFixedThreadPool(
+                    (int) Math.max(1, Math.min(parallelism, chunks)), threads);
+
+            try {
+                for (long pos = 0; pos < size; pos += chunkSize) {
+                    long from = pos;
+                    long to = Math.min(size, pos + chunkSize);
+                    workers.execute(() -> runChunk(parser, channel, from, to, size, set.size(), queue, failure));
+                }
+
+                long edges = 0;
+                long merges = 0;
+                for (long remaining = chunks; remaining > 0; ) {
+                    int[] batch = queue.take();
+                    // Stop applying batches as soon as any chunk has failed
+                    rethrow(failure.get());
+                    if (batch == END_OF_CHUNK) {
+                        remaining--;
+                    } else {
+                        edges += batch.length / 2;
+                        merges += set.unionAll(batch, batch.length);
+                    }
+                }
+                return new Stats(edges, size, merges, System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while loading " + file);
+            } finally {
+                awaitWorkers(workers, threads);
+            }
+        }
+    }
+
+    /**
+     * Stop the workers and wait until their threads have exited, so none of them uses the channel after it is closed
+     */
+    private static void awaitWorkers(ExecutorService workers, WorkerThreadFactory threads) {
+        workers.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        // The pool reports termination just before its last thread exits
+        for (Thread thread : threads.created()) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runChunk(ChunkParser parser, FileChannel channel, long from, long to, long size, int elements,
+                          BlockingQueue<int[]> queue, AtomicReference<Throwable> failure) {
+        try {
+            BatchSink sink = new BatchSink(queue, batchSize, elements);
+            parser.parse(channel, from, to, size, sink);
+            sink.flush();
+        } catch (InterruptedException e) {
+            // The load was aborted and nobody is waiting for the end marker
+            return;
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
+        try {
+            queue.put(END_OF_CHUNK);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void rethrow(Throwable t) throws IOException {
+        if (t == null) {
+            return;
+        }
+        if (t instanceof IOException e) {
+            throw e;
+        }
+        if (t instanceof RuntimeException e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        throw new IOException(t);
+    }
+
+    private static void parseBinary(FileChannel channel, long from, long to, ByteOrder order, BatchSink sink)
+            throws IOException, InterruptedException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        IntBuffer ints = mapped.order(order).asIntBuffer();
+        while (ints.hasRemaining()) {
+            int n = Math.min(ints.remaining(), sink.free());
+            ints.get(sink.buffer, sink.count, n);
+            sink.count += n;
+            sink.flushIfFull();
+        }
+    }
+
+    /**
+     * A chunk owns every line that starts within [from, to). The mapping begins one byte early
+     * to tell whether from is a line start and extends {@link #MAX_LINE_LENGTH} bytes past to
+     * so that the last line can be finished.
+     */
+    private static void parseText(FileChannel channel, long from, long to, long size, BatchSink sink)
+            throws IOException, InterruptedException {
+        long mapStart = Math.max(0, from - 1);
+        long mapEnd = Math.min(size, to + MAX_LINE_LENGTH);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = (int) (mapEnd - mapStart);
+        int end = (int) (to - mapStart);
+
+        int i = 0;
+        if (from > 0) {
+            // Skip the tail of the line owned by the previous chunk
+            while (i < limit && mapped.get(i) != '\n') {
+                i++;
+            }
+            i++;
+        }
+
+        while (i < end) {
+            int lineStart = i;
+            int lineEnd = i;
+            while (lineEnd < limit && mapped.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd - lineStart > MAX_LINE_LENGTH) {
+                throw new IOException("Line at byte " + (mapStart + lineStart) + " exceeds "
+                        + MAX_LINE_LENGTH + " bytes");
+            }
+
+            i = skipSeparators(mapped, i, lineEnd);
+            if (i < lineEnd && mapped.get(i) != '#' && mapped.get(i) != '%') {
+                long u = 0;
+                int digits = i;
+                while (i < lineEnd && isDigit(mapped.get(i))) {
+                    u = u * 10 + (mapped.get(i++) - '0');
+                    if (u > Integer.MAX_VALUE) {
+                        throw malformed(mapStart + lineStart);
+                    }
+                }
+                if (i == digits || i == lineEnd || !isSeparator(mapped.get(i))) {
+                    throw malformed(mapStart + lineStart);
+                }
+
+                i = skipSeparators(mapped, i, lineEnd);
+                long v = 0;
+                digits = i;
+                while (i < lineEnd && isDigit(mapped.get(i))) {
+                    v = v * 10 + (mapped.get(i++) - '0');
+                    if (v > Integer.MAX_VALUE) {
+                        throw malformed(mapStart + lineStart);
+                    }
+                }
+                // Any trailing columns are ignored
+                if (i == digits || (i < lineEnd && !isSeparator(mapped.get(i)))) {
+                    throw malformed(mapStart + lineStart);
+                }
+                sink.add((int) u, (int) v);
+            }
+            i = lineEnd + 1;
+        }
+    }
+
+    private static int skipSeparators(MappedByteBuffer mapped, int i, int limit) {
+        while (i < limit && isSeparator(mapped.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '\t' || b == ',' || b == '\r';
+    }
+
+    private static IOException malformed(long offset) {
+        return new IOException("Malformed edge on line starting at byte " + offset);
+    }
+
+    /**
+     * Throughput statistics of a single load
+     *
+     * @param edges Number of edges read
+     * @param bytes Number of bytes read
+     * @param merges Number of edges that merged two previously distinct partitions
+     * @param elapsedNanos Wall-clock duration of the load
+     */
+    public record Stats(long edges, long bytes, long merges, long elapsedNanos) {
+        public double edgesPerSecond() {
+            return elapsedNanos == 0 ? 0 : edges * 1e9 / elapsedNanos;
+        }
+
+        public double bytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkParser {
+        void parse(FileChannel channel, long from, long to, long size, BatchSink sink)
+                throws IOException, InterruptedException;
+    }
+
+    /**
+     * Accumulates edges of one chunk and hands them to the consumer in batches,
+     * after checking that every endpoint is an element of the partition set
+     */
+    private static final class BatchSink {
+        private final BlockingQueue<int[]> queue;
+        private final int capacity;
+        private final int elements;
+        private int[] buffer;
+        private int count;
+
+        BatchSink(BlockingQueue<int[]> queue, int batchSize, int elements) {
+            this.queue = queue;
+            this.capacity = batchSize * 2;
+            this.elements = elements;
+            this.buffer = new int[capacity];
+        }
+
+        int free() {
+            return capacity - count;
+        }
+
+        void add(int u, int v) throws InterruptedException {
+            buffer[count++] = u;
+            buffer[count++] = v;
+            flushIfFull();
+        }
+
+        void flushIfFull() throws InterruptedException {
+            if (count == capacity) {
+                hand(buffer);
+                buffer = new int[capacity];
+                count = 0;
+            }
+        }
+
+        void flush() throws InterruptedException {
+            if (count > 0) {
+                hand(Arrays.copyOf(buffer, count));
+                count = 0;
+            }
+        }
+
+        private void hand(int[] batch) throws InterruptedException {
+            for (int x : batch) {
+                if (x < 0 || x >= elements) {
+                    throw new IllegalArgumentException("Element out of bounds");
+                }
+            }
+            queue.put(batch);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger next = new AtomicInteger();
+        private final List<Thread> created = new ArrayList<>();
+
+        @Override
+        public synchronized Thread newThread(@NotNull Runnable r) {
+            Thread thread = new Thread(r, "edge-list-loader-" + next.getAndIncrement());
+            thread.setDaemon(true);
+            created.add(thread);
+            return thread;
+        }
+
+        synchronized List<Thread> created() {
+            return new ArrayList<>(created);
+        }
+    }
+}
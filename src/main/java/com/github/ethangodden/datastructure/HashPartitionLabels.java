@@ -0,0 +1,143 @@
+package com.github.ethangodden.datastructure;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * {@link PartitionLabels} backed by an open-addressing hash table with linear probing,
+ * storing keys and labels in two parallel arrays. Both arrays are filled before the
+ * snapshot is constructed and never written afterwards.
+ *
+ * @param <T> Type of elements in the snapshot
+ */
+final class HashPartitionLabels<T> implements PartitionLabels<T> {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Object[] keys;
+    private final int[] labels;
+    private final int size;
+    private final int nextLabel;
+
+    private HashPartitionLabels(Object[] keys, int[] labels, int size, int nextLabel) {
+        this.keys = keys;
+        this.labels = labels;
+        this.size = size;
+        this.nextLabel = nextLabel;
+    }
+
+    @Override
+    public int label(@NotNull T e) {
+        int slot = slot(keys, Objects.requireNonNull(e, "null element cannot exist in a partition"));
+        if (keys[slot] == null) {
+            throw new IllegalArgumentException("Element is not in any partition");
+        }
+        return labels[slot];
+    }
+
+    @Override
+    public boolean samePartition(@NotNull T e1, @NotNull T e2) {
+        return label(e1) == label(e2);
+    }
+
+    @Override
+    public boolean contains(@NotNull T e) {
+        return keys[slot(keys, Objects.requireNonNull(e, "null element cannot exist in a partition"))] != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the slot holding the key, or the empty slot where it would be inserted
+     */
+    private static int slot(Object[] keys, Object key) {
+        int mask = keys.length - 1;
+        int h = key.hashCode();
+        int i = (h ^ (h >>> 16)) & mask;
+        while (keys[i] != null && !keys[i].equals(key)) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Capacity keeping the table at most half full
+     * @throws IllegalStateException if that would need more than {@link #MAX_CAPACITY} slots
+     */
+    private static int capacityFor(int size) {
+        if (size > MAX_CAPACITY / 2) {
+            throw new IllegalStateException("Too many elements for a snapshot: " + size);
+        }
+        return Math.max(2, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+    }
+
+    /**
+     * Mutable staging area for the next snapshot, seeded with the labels of the previous one
+     */
+    static final class Builder<T> {
+        private Object[] keys;
+        private int[] labels;
+        private int size;
+        private int nextLabel;
+
+        /**
+         * @param previous Snapshot to start from, or null to start empty
+         * @param expectedSize Number of elements the new snapshot will hold
+         */
+        Builder(HashPartitionLabels<T> previous, int expectedSize) {
+            int capacity = capacityFor(expectedSize);
+            if (previous == null) {
+                keys = new Object[capacity];
+                labels = new int[capacity];
+            } else if (previous.keys.length >= capacity) {
+                keys = previous.keys.clone();
+                labels = previous.labels.clone();
+                size = previous.size;
+                nextLabel = previous.nextLabel;
+            } else {
+                keys = new Object[capacity];
+                labels = new int[capacity];
+                nextLabel = previous.nextLabel;
+                for (int i = 0; i < previous.keys.length; i++) {
+                    if (previous.keys[i] != null) {
+                        int slot = slot(keys, previous.keys[i]);
+                        keys[slot] = previous.keys[i];
+                        labels[slot] = previous.labels[i];
+                    }
+                }
+                size = previous.size;
+            }
+        }
+
+        /**
+         * @return Label of the element, or -1 if it has none yet
+         */
+        int labelOf(@NotNull T e) {
+            int slot = slot(keys, e);
+            return keys[slot] == null ? -1 : labels[slot];
+        }
+
+        int newLabel() {
+            return nextLabel++;
+        }
+
+        void put(@NotNull T e, int label) {
+            int slot = slot(keys, e);
+            if (keys[slot] == null) {
+                keys[slot] = e;
+                size++;
+            }
+            labels[slot] = label;
+        }
+
+        HashPartitionLabels<T> build() {
+            HashPartitionLabels<T> snapshot = new HashPartitionLabels<>(keys, labels, size, nextLabel);
+            keys = null;
+            labels = null;
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.ethangodden.datastructure;
+
+/**
+ * Immutable snapshot of an {@link IntRangePartitionSet} that maps every element
+ * directly to the canonical id of its partition.
+ * Instances are safe for unsynchronized concurrent reads and answer
+ * {@link #samePartition(int, int)} with a single array read per element.
+ * <p>
+ * Labels are the roots of the sets at export time, so a label can change when its set is
+ * merged. After the first {@link IntRangePartitionSet#export()}, the set links the members of
+ * each set into a cycle and records the roots that survive each union. The next export copies
+ * this array and rewrites only the members of those roots' sets.
+ */
+public final class IntPartitionLabels {
+    private final int[] labels;
+
+    IntPartitionLabels(int[] labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Get the canonical id of the partition containing element x
+     * @param x Element to look up
+     * @return Canonical id of the partition containing x
+     */
+    public int label(int x) {
+        if (x < 0 || x >= labels.length) {
+            throw new IllegalArgumentException("Element out of bounds");
+        }
+        return labels[x];
+    }
+
+    /**
+     * Check if two elements were in the same partition when the snapshot was taken
+     * @param x First element
+     * @param y Second element
+     * @return true if both elements are in the same partition, false otherwise
+     */
+    public boolean samePartition(int x, int y) {
+        return label(x) == label(y);
+    }
+
+    /**
+     * @return Number of elements in the snapshot
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * @return Copy of the labels, indexed by element
+     */
+    public int[] toArray() {
+        return labels.clone();
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.ethangodden.datastructure;
 
+import java.util.Arrays;
+
 /**
  * Tree-based implementation of Disjoint Set (Union-Find) data structure
  * with path compression and union by rank optimizations.
@@ -7,6 +9,12 @@ package com.github.ethangodden.datastructure;
 public class IntRangePartitionSet {
     private final int[] parent;
     private final int[] rank;
+    // Export bookkeeping, allocated by the first export
+    private int[] next;
+    private boolean[] changed;
+    private int[] changedRoots;
+    private int numChangedRoots;
+    private IntPartitionLabels lastExport;
     private int numSets;
 
     /**
@@ -70,10 +78,108 @@ public class IntRangePartitionSet {
             rank[rootX]++;
         }
 
+        if (lastExport != null) {
+            trackUnion(rootX, rootY);
+        }
+
         numSets--;
         return true;
     }
 
+    /**
+     * Union every pair in a flat batch of edges, where pairs[2i] and pairs[2i + 1]
+     * form the i-th edge
+     * @param pairs Flat array of edge endpoints
+     * @param length Number of ints in pairs to consume (must be even)
+     * @return Number of unions that were performed
+     */
+    public int unionAll(int[] pairs, int length) {
+        if (length < 0 || length > pairs.length || (length & 1) != 0) {
+            throw new IllegalArgumentException("Batch length must be even and within the array");
+        }
+
+        int merged = 0;
+        for (int i = 0; i < length; i += 2) {
+            if (union(pairs[i], pairs[i + 1])) {
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Export an immutable snapshot mapping every element to the root of its set.
+     * Exports after the first are incremental as described in {@link IntPartitionLabels}.
+     * @return Snapshot of the current partitions
+     */
+    public IntPartitionLabels export() {
+        int[] labels;
+        if (lastExport == null) {
+            labels = new int[parent.length];
+            next = new int[parent.length];
+            changed = new boolean[parent.length];
+            changedRoots = new int[Math.min(parent.length, 16)];
+            for (int i = 0; i < next.length; i++) {
+                next[i] = i;
+            }
+            for (int i = 0; i < labels.length; i++) {
+                int root = find(i);
+                labels[i] = root;
+                if (root != i) {
+                    next[i] = next[root];
+                    next[root] = i;
+                }
+            }
+        } else {
+            labels = lastExport.toArray();
+            for (int i = 0; i < numChangedRoots; i++) {
+                int root = changedRoots[i];
+                changed[root] = false;
+                if (parent[root] != root) {
+                    continue;
+                }
+                int member = root;
+                do {
+                    labels[member] = root;
+                    member = next[member];
+                } while (member != root);
+            }
+            numChangedRoots = 0;
+        }
+
+        lastExport = new IntPartitionLabels(labels);
+        return lastExport;
+    }
+
+    private void trackUnion(int rootX, int rootY) {
+        // Join the circular member lists and record the surviving root
+        int nextX = next[rootX];
+        next[rootX] = next[rootY];
+        next[rootY] = nextX;
+
+        int root = parent[rootX] == rootX ? rootX : rootY;
+        if (changed[root]) {
+            return;
+        }
+        if (numChangedRoots == changedRoots.length) {
+            changedRoots = Arrays.copyOf(changedRoots, Math.min(parent.length, 2 * changedRoots.length));
+        }
+        changed[root] = true;
+        changedRoots[numChangedRoots++] = root;
+    }
+
+    /**
+     * @return Number of elements in the partition set
+     */
+    public int size() {
+        return parent.length;
+    }
 
+    /**
+     * @return Number of disjoint sets currently in the partition set
+     */
+    public int numSets() {
+        return numSets;
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.github.ethangodden.datastructure;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Read-only snapshot of a {@link PartitionSet} that maps every element directly to an id
+ * of its partition. Implementations are immutable and safe for unsynchronized concurrent reads.
+ * <p>
+ * Snapshots are produced by an export operation on the partition set, such as
+ * {@link TreePartitionSet#export()}. The first export labels every element and starts tracking
+ * changes: from then on the set keeps a circular list of the members of each partition and
+ * records the roots of partitions created or merged. Each later export copies the previous
+ * snapshot and relabels only the members of those partitions, skipping recorded roots that have
+ * since been merged under another root. Sets that are never exported pay nothing for this bookkeeping.
+ *
+ * @param <T> Type of elements in the snapshot
+ */
+public interface PartitionLabels<T> {
+    /**
+     * Get the id of the partition containing the element.
+     *
+     * @param e Element to look up
+     * @return Id of the partition containing the element
+     * @throws NullPointerException if the element is null
+     * @throws IllegalArgumentException if the element was not in any partition
+     */
+    int label(@NotNull T e);
+
+    /**
+     * Check if two elements were in the same partition when the snapshot was taken.
+     *
+     * @param e1 First element
+     * @param e2 Second element
+     * @return true if both elements are in the same partition, false otherwise
+     * @throws NullPointerException if either element is null
+     * @throws IllegalArgumentException if either element was not in any partition
+     */
+    boolean samePartition(@NotNull T e1, @NotNull T e2);
+
+    /**
+     * Check if the element was in any partition when the snapshot was taken.
+     *
+     * @param e Element to look up
+     * @return true if the element is in the snapshot, false otherwise
+     * @throws NullPointerException if the element is null
+     */
+    boolean contains(@NotNull T e);
+
+    /**
+     * @return Number of elements in the snapshot
+     */
+    int size();
+}
@@ -3,25 +3,38 @@ package com.github.ethangodden.datastructure;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public final class TreePartitionSet<T> implements PartitionSet<T> {
     private final Map<T, T> parentMap;
     private final Map<T, Integer> rankMap;
+    // Export bookkeeping, only maintained once the first export has been taken
+    private final Map<T, T> nextMap;
+    private final Set<T> changedRoots;
+    private HashPartitionLabels<T> lastExport;
 
 
     public TreePartitionSet() {
         this.parentMap = new HashMap<>();
         this.rankMap = new HashMap<>();
+        this.nextMap = new HashMap<>();
+        this.changedRoots = new HashSet<>();
     }
 
     @Override
     public boolean createPartition(@NotNull T e) {
         Objects.requireNonNull(e, "null element cannot be added to a cluster");
         // Check if the element already exists in a partition and it was successfully added
-        return !parentMap.containsKey(e) && parentMap.put(e, e) == null && rankMap.put(e, 0) == null;
+        boolean created = !parentMap.containsKey(e) && parentMap.put(e, e) == null && rankMap.put(e, 0) == null;
+        if (created && lastExport != null) {
+            nextMap.put(e, e);
+            changedRoots.add(e);
+        }
+        return created;
     }
 
     @Override
@@ -45,6 +58,13 @@ public final class TreePartitionSet<T> implements PartitionSet<T> {
             parentMap.put(p2, p1);
             rankMap.put(p1, rank1 + 1); // Increase the rank of the new root
         }
+
+        if (lastExport != null) {
+            T next1 = nextMap.get(p1);
+            nextMap.put(p1, nextMap.get(p2));
+            nextMap.put(p2, next1);
+            changedRoots.add(parentMap.get(p1));
+        }
         return true; // Successfully merged the partitions
     }
 
@@ -53,6 +73,55 @@ public final class TreePartitionSet<T> implements PartitionSet<T> {
         return findParent(e1).equals(findParent(e2));
     }
 
+    /**
+     * Export an immutable snapshot mapping every element to an id of its partition.
+     * Updates are incremental as described in {@link PartitionLabels}; a merged partition
+     * keeps the id its root had in the previous snapshot.
+     *
+     * @return Snapshot of the current partitions
+     * @throws IllegalStateException if the set has more than 2^29 elements
+     */
+    public @NotNull PartitionLabels<T> export() {
+        HashPartitionLabels.Builder<T> builder = new HashPartitionLabels.Builder<>(lastExport, parentMap.size());
+        if (lastExport == null) {
+            for (T e : parentMap.keySet()) {
+                nextMap.put(e, e);
+            }
+            for (T e : parentMap.keySet()) {
+                T root = findParent(e);
+                int label = builder.labelOf(root);
+                if (label < 0) {
+                    label = builder.newLabel();
+                    builder.put(root, label);
+                }
+                if (!e.equals(root)) {
+                    builder.put(e, label);
+                    nextMap.put(e, nextMap.get(root));
+                    nextMap.put(root, e);
+                }
+            }
+        } else {
+            for (T root : changedRoots) {
+                if (!parentMap.get(root).equals(root)) {
+                    continue;
+                }
+                int label = builder.labelOf(root);
+                if (label < 0) {
+                    label = builder.newLabel();
+                }
+                T member = root;
+                do {
+                    builder.put(member, label);
+                    member = nextMap.get(member);
+                } while (!member.equals(root));
+            }
+            changedRoots.clear();
+        }
+
+        lastExport = builder.build();
+        return lastExport;
+    }
+
     private T findParent(@NotNull T e) {
         Objects.requireNonNull(e, "null element cannot exist in a partition");
         // Path compression
@@ -0,0 +1,195 @@
+package com.github.ethangodden.datastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EdgeListLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testLoadText() throws IOException {
+        Path file = dir.resolve("edges.txt");
+        Files.writeString(file, "# comment\n% another comment\n0 1\n\n2,3\n1\t2 0.5\r\n5 6");
+
+        IntRangePartitionSet set = new IntRangePartitionSet(8);
+        EdgeListLoader.Stats stats = new EdgeListLoader().loadText(file, set);
+
+        assertEquals(4, stats.edges());
+        assertEquals(4, stats.merges());
+        assertEquals(Files.size(file), stats.bytes());
+        assertEquals(set.find(0), set.find(3));
+        assertEquals(set.find(5), set.find(6));
+        assertNotEquals(set.find(0), set.find(5));
+        assertNotEquals(set.find(4), set.find(7));
+        assertEquals(4, set.numSets());
+    }
+
+    @Test
+    public void testLoadBinary() throws IOException {
+        Path file = dir.resolve("edges.bin");
+        ByteBuffer buffer = ByteBuffer.allocate(24).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(0).putInt(1).putInt(1).putInt(2).putInt(0).putInt(2);
+        Files.write(file, buffer.array());
+
+        IntRangePartitionSet set = new IntRangePartitionSet(4);
+        EdgeListLoader.Stats stats = new EdgeListLoader().loadBinary(file, ByteOrder.BIG_ENDIAN, set);
+
+        assertEquals(3, stats.edges());
+        assertEquals(2, stats.merges());
+        assertEquals(set.find(0), set.find(2));
+        assertNotEquals(set.find(0), set.find(3));
+    }
+
+    /**
+     * Use chunks much smaller than the file so that lines and batches straddle chunk
+     * boundaries, and compare the result against unioning the edges directly.
+     */
+    @Test
+    public void testSmallChunksMatchDirectUnion() throws IOException {
+        int n = 2000;
+        int m = 3000;
+        Random random = new Random(42);
+        int[] edges = new int[2 * m];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = random.nextInt(n);
+        }
+
+        StringBuilder text = new StringBuilder();
+        ByteBuffer binary = ByteBuffer.allocate(8 * m).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < m; i++) {
+            text.append(edges[2 * i]).append(i % 2 == 0 ? " " : ",").append(edges[2 * i + 1]).append('\n');
+            binary.putInt(edges[2 * i]).putInt(edges[2 * i + 1]);
+        }
+        Path textFile = dir.resolve("random.txt");
+        Path binaryFile = dir.resolve("random.bin");
+        Files.writeString(textFile, text);
+        Files.write(binaryFile, binary.array());
+
+        IntRangePartitionSet expected = new IntRangePartitionSet(n);
+        expected.unionAll(edges, edges.length);
+
+        EdgeListLoader loader = new EdgeListLoader(4, 64, 10, 2);
+        IntRangePartitionSet fromText = new IntRangePartitionSet(n);
+        IntRangePartitionSet fromBinary = new IntRangePartitionSet(n);
+        assertEquals(m, loader.loadText(textFile, fromText).edges());
+        assertEquals(m, loader.loadBinary(binaryFile, ByteOrder.LITTLE_ENDIAN, fromBinary).edges());
+
+        assertEquals(expected.numSets(), fromText.numSets());
+        assertEquals(expected.numSets(), fromBinary.numSets());
+        for (int i = 1; i < n; i++) {
+            boolean same = expected.find(0) == expected.find(i);
+            assertEquals(same, fromText.find(0) == fromText.find(i));
+            assertEquals(same, fromBinary.find(0) == fromBinary.find(i));
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = dir.resolve("empty.txt");
+        Files.writeString(file, "");
+
+        IntRangePartitionSet set = new IntRangePartitionSet(2);
+        EdgeListLoader.Stats stats = new EdgeListLoader().loadText(file, set);
+
+        assertEquals(0, stats.edges());
+        assertEquals(2, set.numSets());
+    }
+
+    @Test
+    public void testMalformedText() throws IOException {
+        Path file = dir.resolve("bad.txt");
+        Files.writeString(file, "0 1\n2 x\n");
+
+        assertThrows(IOException.class, () -> new EdgeListLoader().loadText(file, new IntRangePartitionSet(4)));
+    }
+
+    /**
+     * The line length limit must not depend on where chunk boundaries fall: an overlong
+     * comment fails both inside a single chunk and across many small ones, while a line
+     * of exactly the limit loads across chunk boundaries.
+     */
+    @Test
+    public void testLongLines() throws IOException {
+        String longComment = "#" + "x".repeat(EdgeListLoader.MAX_LINE_LENGTH);
+        Path tooLong = dir.resolve("long.txt");
+        Files.writeString(tooLong, "0 1\n" + longComment + "\n2 3\n");
+
+        assertThrows(IOException.class, () -> new EdgeListLoader().loadText(tooLong, new IntRangePartitionSet(4)));
+        assertThrows(IOException.class,
+                () -> new EdgeListLoader(2, 64, 10, 2).loadText(tooLong, new IntRangePartitionSet(4)));
+
+        Path atLimit = dir.resolve("limit.txt");
+        Files.writeString(atLimit, "0 1\n" + longComment.substring(1).replaceFirst("x", "#") + "\n2 3\n");
+        IntRangePartitionSet set = new IntRangePartitionSet(4);
+        assertEquals(2, new EdgeListLoader(2, 64, 10, 2).loadText(atLimit, set).edges());
+        assertEquals(2, set.numSets());
+    }
+
+    @Test
+    public void testTruncatedBinary() throws IOException {
+        Path file = dir.resolve("bad.bin");
+        Files.write(file, new byte[12]);
+
+        assertThrows(IOException.class,
+                () -> new EdgeListLoader().loadBinary(file, ByteOrder.LITTLE_ENDIAN, new IntRangePartitionSet(4)));
+    }
+
+    @Test
+    public void testEndpointOutOfBounds() throws IOException {
+        Path file = dir.resolve("oob.txt");
+        Files.writeString(file, "0 1\n2 9\n");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new EdgeListLoader().loadText(file, new IntRangePartitionSet(4)));
+    }
+
+    @Test
+    public void testOutOfBoundsBatchNotApplied() throws IOException {
+        StringBuilder text = new StringBuilder("99 1\n");
+        for (int i = 0; i < 9; i++) {
+            text.append(i).append(' ').append(i + 1).append('\n');
+        }
+        Path file = dir.resolve("oob-first.txt");
+        Files.writeString(file, text);
+
+        IntRangePartitionSet set = new IntRangePartitionSet(10);
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListLoader().loadText(file, set));
+        assertEquals(10, set.numSets());
+    }
+
+    @Test
+    public void testFailedLoadStopsWorkers() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.append(i % 10).append(' ').append((i + 1) % 10).append('\n');
+        }
+        text.append("2 x\n");
+        Path file = dir.resolve("bad-tail.txt");
+        Files.writeString(file, text);
+
+        EdgeListLoader loader = new EdgeListLoader(4, 1 << 10, 16, 1);
+        assertThrows(IOException.class, () -> loader.loadText(file, new IntRangePartitionSet(10)));
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(t -> t.getName().startsWith("edge-list-loader-")),
+            "Worker threads should have exited when the load returned");
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListLoader(0, 64, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListLoader(1, 63, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListLoader(1, 64, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListLoader(1, 64, 10, 0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.ethangodden.datastructure;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntRangePartitionSetTest {
+
+    @Test
+    public void testExportInitially() {
+        IntRangePartitionSet set = new IntRangePartitionSet(4);
+        IntPartitionLabels labels = set.export();
+
+        assertEquals(4, labels.size());
+        assertTrue(labels.samePartition(1, 1));
+        assertFalse(labels.samePartition(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> labels.label(4));
+        assertThrows(IllegalArgumentException.class, () -> labels.label(-1));
+    }
+
+    @Test
+    public void testExportLabelsAreRoots() {
+        IntRangePartitionSet set = new IntRangePartitionSet(6);
+        set.union(0, 1);
+        set.union(2, 3);
+        set.union(1, 3);
+
+        IntPartitionLabels labels = set.export();
+        for (int i = 0; i < 6; i++) {
+            assertEquals(set.find(i), labels.label(i));
+        }
+        assertTrue(labels.samePartition(0, 2));
+        assertFalse(labels.samePartition(0, 4));
+    }
+
+    @Test
+    public void testIncrementalExport() {
+        IntRangePartitionSet set = new IntRangePartitionSet(8);
+        set.union(0, 1);
+        IntPartitionLabels first = set.export();
+
+        set.union(1, 2);
+        set.union(4, 5);
+        set.union(5, 0);
+        IntPartitionLabels second = set.export();
+
+        assertTrue(first.samePartition(0, 1));
+        assertFalse(first.samePartition(0, 2));
+        assertFalse(first.samePartition(0, 4));
+
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                assertEquals(set.find(i) == set.find(j), second.samePartition(i, j),
+                    "Elements " + i + " and " + j);
+            }
+        }
+
+        int[] copy = second.toArray();
+        copy[0] = -1;
+        assertNotEquals(-1, second.label(0));
+    }
+
+    @Test
+    public void testUnionAll() {
+        IntRangePartitionSet set = new IntRangePartitionSet(5);
+
+        assertEquals(2, set.unionAll(new int[]{0, 1, 1, 0, 2, 3, 9}, 6));
+        assertEquals(3, set.numSets());
+        assertEquals(set.find(0), set.find(1));
+        assertThrows(IllegalArgumentException.class, () -> set.unionAll(new int[]{0, 1, 2}, 3));
+    }
+}
@@ -283,6 +283,67 @@ public class TreePartitionSetTest extends PartitionSetTest<Integer> {
         }
     }
 
+    @Test
+    public void testExport() {
+        TreePartitionSet<String> set = new TreePartitionSet<>();
+        set.createPartition("apple");
+        set.createPartition("banana");
+        set.createPartition("cherry");
+        set.mergePartitions("apple", "banana");
+
+        PartitionLabels<String> labels = set.export();
+
+        assertEquals(3, labels.size());
+        assertTrue(labels.contains("cherry"));
+        assertFalse(labels.contains("durian"));
+        assertTrue(labels.samePartition("apple", "banana"));
+        assertFalse(labels.samePartition("apple", "cherry"));
+        assertThrows(IllegalArgumentException.class, () -> labels.label("durian"));
+        assertThrows(NullPointerException.class, () -> labels.label(null));
+    }
+
+    /**
+     * A snapshot must not change when the set is modified afterwards, while the next
+     * export picks up the elements and merges added since the previous one.
+     */
+    @Test
+    public void testIncrementalExport() {
+        TreePartitionSet<Integer> set = new TreePartitionSet<>();
+        for (int i = 0; i < 10; i++) {
+            set.createPartition(i);
+        }
+        set.mergePartitions(0, 1);
+        PartitionLabels<Integer> first = set.export();
+
+        // Add enough elements to force the next snapshot to grow its table
+        for (int i = 10; i < 100; i++) {
+            set.createPartition(i);
+        }
+        set.mergePartitions(1, 2);
+        set.mergePartitions(50, 51);
+        set.mergePartitions(51, 0);
+        PartitionLabels<Integer> second = set.export();
+
+        assertEquals(10, first.size());
+        assertFalse(first.contains(50));
+        assertTrue(first.samePartition(0, 1));
+        assertFalse(first.samePartition(0, 2));
+
+        assertEquals(100, second.size());
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                assertEquals(set.samePartition(i, j), second.samePartition(i, j),
+                    "Elements " + i + " and " + j);
+            }
+        }
+
+        // Exporting again without changes gives the same labels
+        PartitionLabels<Integer> third = set.export();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(second.label(i), third.label(i));
+        }
+    }
+
     private record TestObject(int id, String name) {
 
         @Override